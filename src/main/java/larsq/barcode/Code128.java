@@ -3,124 +3,146 @@ package larsq.barcode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.*;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 public class Code128 {
     private static final Logger LOGGER = LoggerFactory.getLogger(Code128.class);
 
-    public String encode(String value) {
-        EncodedString encodedString = encoded(value);
-
-        if (encodedString == null) {
-            return null;
-        }
+    private final SearchEngine search = new SearchEngine();
+    private volatile Code128Configuration configuration;
 
-        return encodedString.characters();
+    public Code128() {
+        this(new Builder());
     }
 
-    private EncodedString encoded(String message) {
-        SortedMap<Integer, List<EncodedString>> pathsToExplore = initialPaths();
-        Map<String, Set<Symbol>> explored = new LinkedHashMap<>();
+    private Code128(Builder builder) {
+        Map<InputClass, Engine> engines = new EnumMap<>(InputClass.class);
+        builder.engines.forEach((inputClass, name) -> engines.put(inputClass, builder.registry.engine(name)));
 
-        while (!pathsToExplore.isEmpty()) {
-            List<EncodedString> cheapestPaths = pathsToExplore.remove(pathsToExplore.firstKey());
-
-            for (EncodedString current : cheapestPaths) {
-                ExploreResult result = explore(explored, message, current);
-
-                if (result.encodingComplete()) {
-                    LOGGER.debug("encoding found: " + result.complete);
-                    return result.complete;
-                }
-                addInitialPaths(pathsToExplore, result.partialEncodings);
-            }
+        this.configuration = new Code128Configuration(engines, builder.thresholds, builder.registry.engine(SearchEngine.NAME), false);
 
+        if (builder.selfBenchmark != null) {
+            calibrate(builder.selfBenchmark);
         }
-        return null;
     }
 
+    public static Builder builder() {
+        return new Builder();
+    }
 
-    private ExploreResult explore(Map<String, Set<Symbol>> explored, String message, EncodedString encoded) {
-        Set<Symbol> alreadyExploredEncodings = explored.computeIfAbsent(generateKey(encoded), __ -> new LinkedHashSet<>());
-        Set<Symbol> nextSymbols = extractNextSymbols(message, encoded, alreadyExploredEncodings);
-
-        List<EncodedString> partialResults = new LinkedList<>();
-        for (Symbol nextSymbol : nextSymbols) {
-            EncodedString updated = encoded.withSymbol(nextSymbol);
-
-            if (updated.encodedMessage().equals(message)) {
-                return ExploreResult.complete(updated);
-            }
-
-            partialResults.add(updated);
-        }
-
-        alreadyExploredEncodings.addAll(nextSymbols);
-        return ExploreResult.intermediaryResult(partialResults);
+    public String encode(String value) {
+        return configuration.engineFor(InputClass.of(value), value.length()).encode(value);
     }
 
-    private static String generateKey(EncodedString encoded) {
-        return encoded.currentCodeSet().name() + "::" + encoded.encodedMessage();
+    /**
+     * @return the engines and thresholds currently used by {@link #encode(String)}
+     */
+    public Code128Configuration configuration() {
+        return configuration;
     }
 
-    private static Set<Symbol> extractNextSymbols(String message, EncodedString encoded, Set<Symbol> alreadyExplored) {
-        Set<Symbol> nextSymbols = new LinkedHashSet<>();
+    /**
+     * Runs the self-benchmark and replaces the thresholds of the current configuration with the measured ones.
+     *
+     * @return the calibrated configuration
+     */
+    public Code128Configuration calibrate() {
+        return calibrate(new SelfBenchmark());
+    }
 
-        if (message.length() - encoded.length() >= encoded.currentCodeSet().length) {
-            int start = encoded.encodedMessage().length();
-            int stop = start + encoded.currentCodeSet().length;
+    private Code128Configuration calibrate(SelfBenchmark selfBenchmark) {
+        configuration = selfBenchmark.calibrate(configuration);
+        LOGGER.info("calibrated: {}", configuration);
 
-            Symbol nextSymbol = Symbol.fromCodeset(message.substring(start, stop), encoded.currentCodeSet());
+        return configuration;
+    }
 
-            Optional.ofNullable(nextSymbol).ifPresent(nextSymbols::add);
+    /**
+     * Compiles a fixed prefix once so that labels sharing it (e.g. a prefix followed by a serial number)
+     * only have to search for an encoding of the variable suffix.
+     *
+     * @throws IllegalArgumentException if the prefix is empty or cannot be encoded
+     */
+    public Code128Template compile(String prefix) {
+        if (prefix.isEmpty()) {
+            throw new IllegalArgumentException("Prefix must not be empty");
         }
 
-        if (!encoded.lastSymbol().isSwitchSymbol()) {
-            nextSymbols.addAll(SymbolFactory.switchSymbolsOf(encoded.currentCodeSet()));
+        List<EncodedString> prefixStates = search.prefixStates(prefix);
+
+        if (prefixStates.isEmpty()) {
+            throw new IllegalArgumentException("Prefix cannot be encoded: " + prefix);
         }
 
-        nextSymbols.removeAll(alreadyExplored);
+        return new Code128Template(search, prefix, prefixStates);
+    }
 
-        return nextSymbols;
+    /**
+     * Creates an encoder for the serial numbers from {@code first} to {@code last}, inclusive. Both must
+     * consist of the same number of digits.
+     *
+     * @throws IllegalArgumentException if the range is empty or not numeric
+     */
+    public Code128Range range(String first, String last) {
+        long count = Code128Range.countOf(first, last);
+        return new Code128Range(search.encoded(first), count);
     }
 
-    private static class ExploreResult {
-        final EncodedString complete;
-        final List<EncodedString> partialEncodings;
+    /**
+     * Configures which engine encodes each {@link InputClass}. By default digit-only input and plain text use
+     * closed form engines and everything else the search engine.
+     */
+    public static class Builder {
+        private EngineRegistry registry = EngineRegistry.defaults();
+        private final Map<InputClass, String> engines = new EnumMap<>(InputClass.class);
+        private final Map<InputClass, Integer> thresholds = new EnumMap<>(InputClass.class);
+        private SelfBenchmark selfBenchmark;
+
+        private Builder() {
+            engine(InputClass.NUMERIC, NumericEngine.NAME, 0);
+            engine(InputClass.TEXT, CodesetBEngine.NAME, 0);
+            engine(InputClass.MIXED, SearchEngine.NAME, 0);
+        }
 
-        private ExploreResult(EncodedString complete, List<EncodedString> partialEncodings) {
-            this.complete = complete;
-            this.partialEncodings = partialEncodings;
+        public Builder registry(EngineRegistry registry) {
+            this.registry = registry;
+            return this;
         }
 
-        boolean encodingComplete() {
-            return complete != null;
+        /**
+         * Uses the named engine for input of the class that is at least {@code minLength} characters long.
+         */
+        public Builder engine(InputClass inputClass, String name, int minLength) {
+            engines.put(inputClass, name);
+            thresholds.put(inputClass, minLength);
+            return this;
         }
 
-        static ExploreResult complete(EncodedString encodedString) {
-            return new ExploreResult(encodedString, null);
+        /**
+         * Replaces the configured thresholds with ones measured on the running JVM when the encoder is built.
+         */
+        public Builder selfBenchmark(boolean selfBenchmark) {
+            return selfBenchmark(selfBenchmark ? new SelfBenchmark() : null);
         }
 
-        static ExploreResult intermediaryResult(List<EncodedString> partialEncodings) {
-            return new ExploreResult(null, partialEncodings);
+        Builder selfBenchmark(SelfBenchmark selfBenchmark) {
+            this.selfBenchmark = selfBenchmark;
+            return this;
         }
-    }
 
-    private static SortedMap<Integer, List<EncodedString>> initialPaths() {
-        SortedMap<Integer, List<EncodedString>> pathsToExplore = new TreeMap<>();
-        addInitialPaths(pathsToExplore, Arrays.asList(
-                EncodedString.create(SymbolFactory.START_SYMBOL_B),
-                EncodedString.create(SymbolFactory.START_SYMBOL_A),
-                EncodedString.create(SymbolFactory.START_SYMBOL_C)));
-        return pathsToExplore;
-    }
+        /**
+         * @throws IllegalArgumentException if an engine is unknown or does not support its input class
+         */
+        public Code128 build() {
+            engines.forEach((inputClass, name) -> {
+                if (!registry.engine(name).supports(inputClass)) {
+                    throw new IllegalArgumentException("Engine " + name + " does not support " + inputClass);
+                }
+            });
 
-    private static void addInitialPaths(SortedMap<Integer, List<EncodedString>> weights, List<EncodedString> encodedStrings) {
-        for (EncodedString encodedString : encodedStrings) {
-            List<EncodedString> sameWeight = weights.computeIfAbsent(encodedString.weight(), __ -> new ArrayList<>());
-            sameWeight.add(encodedString);
+            return new Code128(this);
         }
     }
-
-
 }
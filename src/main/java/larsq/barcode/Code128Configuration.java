@@ -0,0 +1,64 @@
+package larsq.barcode;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The engine chosen for each {@link InputClass}, and the input length from which it is used. Shorter input
+ * is encoded by the search engine. Exposed by {@link Code128#configuration()} for diagnostics.
+ */
+public class Code128Configuration {
+    private final Map<InputClass, Engine> engines;
+    private final Map<InputClass, Integer> thresholds;
+    private final Engine fallback;
+    private final boolean calibrated;
+
+    Code128Configuration(Map<InputClass, Engine> engines, Map<InputClass, Integer> thresholds, Engine fallback, boolean calibrated) {
+        this.engines = new EnumMap<>(engines);
+        this.thresholds = new EnumMap<>(thresholds);
+        this.fallback = fallback;
+        this.calibrated = calibrated;
+    }
+
+    Engine engineFor(InputClass inputClass, int length) {
+        return length >= threshold(inputClass) ? engines.get(inputClass) : fallback;
+    }
+
+    Code128Configuration withThresholds(Map<InputClass, Integer> thresholds) {
+        return new Code128Configuration(engines, thresholds, fallback, true);
+    }
+
+    Engine fallback() {
+        return fallback;
+    }
+
+    Map<InputClass, Engine> engines() {
+        return engines;
+    }
+
+    public String engine(InputClass inputClass) {
+        return engines.get(inputClass).name();
+    }
+
+    /**
+     * @return the shortest input length encoded by {@link #engine(InputClass)}, {@link Integer#MAX_VALUE} if never
+     */
+    public int threshold(InputClass inputClass) {
+        return thresholds.get(inputClass);
+    }
+
+    /**
+     * @return {@code true} if the thresholds were measured by the self-benchmark rather than configured
+     */
+    public boolean calibrated() {
+        return calibrated;
+    }
+
+    @Override
+    public String toString() {
+        return engines.keySet().stream()
+                .map(inputClass -> inputClass + "=" + engine(inputClass) + ">=" + threshold(inputClass))
+                .collect(Collectors.joining(", ", "Code128Configuration{", ", fallback=" + fallback.name() + ", calibrated=" + calibrated + "}"));
+    }
+}
@@ -0,0 +1,156 @@
+package larsq.barcode;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Encodes a contiguous range of zero padded serial numbers, e.g. {@code 000000001} to {@code 010000000}.
+ * <p>
+ * Only the first value is searched for. Every digit is encodable in all codesets, so the symbol layout of
+ * that encoding holds for the whole range: moving to the next value only rewrites the symbols covering the
+ * digits that changed and adjusts the checksum by the difference of their weighted values.
+ * <p>
+ * Instances are created by {@link Code128#range(String, String)} and {@link Code128Template#range(String, String)}.
+ */
+public class Code128Range {
+    private final char[] message;
+    private final long count;
+
+    private final int[] symbolOfPosition;
+    private final int[] symbolOffsets;
+    private final int[] symbolLengths;
+    private final int[] values;
+    private final char[] characters;
+    private int checksum;
+
+    private final char[] firstMessage;
+    private final int[] firstValues;
+    private final char[] firstCharacters;
+    private final int firstChecksum;
+
+    Code128Range(EncodedString first, long count) {
+        List<Symbol> symbols = first.symbols();
+
+        this.message = first.encodedMessage().toCharArray();
+        this.count = count;
+        this.symbolOfPosition = new int[message.length];
+        this.symbolOffsets = new int[symbols.size()];
+        this.symbolLengths = new int[symbols.size()];
+        this.values = new int[symbols.size()];
+        this.characters = new char[symbols.size() + 2];
+
+        int offset = 0;
+        for (int index = 0; index < symbols.size(); index++) {
+            Symbol symbol = symbols.get(index);
+            int length = symbol.encoding().length();
+
+            for (int position = offset; position < offset + length; position++) {
+                symbolOfPosition[position] = index;
+            }
+
+            symbolOffsets[index] = offset;
+            symbolLengths[index] = length;
+            values[index] = symbol.checksumValue();
+            characters[index] = Encoding.of(symbol);
+            offset += length;
+        }
+
+        this.checksum = first.checksum();
+        characters[symbols.size()] = Encoding.of(checksum);
+        characters[symbols.size() + 1] = Encoding.STOP_CHAR;
+
+        this.firstMessage = message.clone();
+        this.firstValues = values.clone();
+        this.firstCharacters = characters.clone();
+        this.firstChecksum = checksum;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Passes the encoding of every value in the range, in ascending order, to the sink. The range can be
+     * iterated repeatedly, but not concurrently.
+     */
+    public void forEach(Consumer<String> sink) {
+        reset();
+
+        for (long index = 0; index < count; index++) {
+            if (index > 0) {
+                update(increment());
+            }
+
+            sink.accept(new String(characters));
+        }
+    }
+
+    private void reset() {
+        System.arraycopy(firstMessage, 0, message, 0, message.length);
+        System.arraycopy(firstValues, 0, values, 0, values.length);
+        System.arraycopy(firstCharacters, 0, characters, 0, characters.length);
+        checksum = firstChecksum;
+    }
+
+    /**
+     * Increments the serial number in place and returns the position of the leftmost digit that changed.
+     */
+    private int increment() {
+        int position = message.length - 1;
+
+        while (message[position] == '9') {
+            message[position--] = '0';
+        }
+
+        message[position]++;
+        return position;
+    }
+
+    private void update(int changedFrom) {
+        for (int index = symbolOfPosition[changedFrom]; index < values.length; index++) {
+            if (symbolLengths[index] == 0) {
+                continue;
+            }
+
+            int value = valueOf(symbolOffsets[index], symbolLengths[index]);
+            checksum = (checksum + index * (value - values[index] + 103)) % 103;
+
+            values[index] = value;
+            characters[index] = Encoding.of(value);
+        }
+
+        characters[values.length] = Encoding.of(checksum);
+    }
+
+    private int valueOf(int offset, int length) {
+        if (length == 2) {
+            return (message[offset] - '0') * 10 + (message[offset + 1] - '0');
+        }
+
+        return message[offset] - ' ';
+    }
+
+    static long countOf(String first, String last) {
+        if (first.length() != last.length()) {
+            throw new IllegalArgumentException("First and last must have the same number of digits: " + first + ", " + last);
+        }
+
+        if (!isDigits(first) || !isDigits(last)) {
+            throw new IllegalArgumentException("Range must consist of digits only: " + first + ", " + last);
+        }
+
+        if (first.compareTo(last) > 0) {
+            throw new IllegalArgumentException("First must not be greater than last: " + first + ", " + last);
+        }
+
+        if (first.length() > 18) {
+            throw new IllegalArgumentException("Range is limited to 18 digits: " + first);
+        }
+
+        return Long.parseLong(last) - Long.parseLong(first) + 1;
+    }
+
+    private static boolean isDigits(String value) {
+        return !value.isEmpty() && value.chars().allMatch(ch -> ch >= '0' && ch <= '9');
+    }
+}
@@ -0,0 +1,49 @@
+package larsq.barcode;
+
+import java.util.List;
+
+/**
+ * A label template with a fixed, pre-encoded prefix. Each call to {@link #encode(String)} resumes
+ * from the codeset and running checksum where the prefix ended and only searches the suffix.
+ * <p>
+ * The prefix is kept in its cheapest encoding ending in each codeset, so the result is as short as
+ * {@link Code128#encode(String)} of the whole label. Where several encodings are equally short the
+ * template may pick a different one.
+ * <p>
+ * Instances are created by {@link Code128#compile(String)}.
+ */
+public class Code128Template {
+    private final SearchEngine search;
+    private final String prefix;
+    private final List<EncodedString> prefixStates;
+
+    Code128Template(SearchEngine search, String prefix, List<EncodedString> prefixStates) {
+        this.search = search;
+        this.prefix = prefix;
+        this.prefixStates = prefixStates;
+    }
+
+    public String prefix() {
+        return prefix;
+    }
+
+    public String encode(String suffix) {
+        EncodedString encodedString = search.encoded(prefix + suffix, prefixStates);
+
+        if (encodedString == null) {
+            return null;
+        }
+
+        return encodedString.characters();
+    }
+
+    /**
+     * Creates an encoder for the prefix followed by each serial number from {@code first} to {@code last}.
+     *
+     * @see Code128#range(String, String)
+     */
+    public Code128Range range(String first, String last) {
+        long count = Code128Range.countOf(first, last);
+        return new Code128Range(search.encoded(prefix + first, prefixStates), count);
+    }
+}
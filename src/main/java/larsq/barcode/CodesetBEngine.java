@@ -0,0 +1,30 @@
+package larsq.barcode;
+
+/**
+ * Closed form encoding of {@link InputClass#TEXT} input: every character is looked up directly in Codeset B.
+ */
+class CodesetBEngine implements Engine {
+    static final String NAME = "codeset-b";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(InputClass inputClass) {
+        return inputClass == InputClass.TEXT;
+    }
+
+    @Override
+    public String encode(String value) {
+        int[] values = new int[value.length() + 1];
+        values[0] = SymbolFactory.START_SYMBOL_B.checksumValue();
+
+        for (int index = 0; index < value.length(); index++) {
+            values[index + 1] = value.charAt(index) - ' ';
+        }
+
+        return Encoding.of(values, values.length);
+    }
+}
@@ -18,12 +18,14 @@ public class EncodedString {
     private final List<Symbol> symbols;
     private final String encodedMessage;
     private final int weight;
+    private final int checksum;
     private final Codeset currentCodeSet;
 
-    private EncodedString(List<Symbol> symbols, String encodedMessage, int weight) {
+    private EncodedString(List<Symbol> symbols, String encodedMessage, int weight, int checksum) {
         this.symbols = unmodifiableList(symbols);
         this.encodedMessage = encodedMessage;
         this.weight = weight;
+        this.checksum = checksum;
         this.currentCodeSet = deriveCurrentCodeSet();
     }
 
@@ -31,6 +33,7 @@ public class EncodedString {
         this.symbols = singletonList(symbol);
         this.encodedMessage = deriveFromSymbols(symbols);
         this.weight = calculateWeight(symbols, this.encodedMessage);
+        this.checksum = symbol.checksumValue() % 103;
         this.currentCodeSet = Objects.requireNonNull(symbol.nextCodeset(), "Symbol must set nexCodeSet");
     }
 
@@ -49,10 +52,19 @@ public class EncodedString {
         String updatedMessage = this.encodedMessage + symbol.encoding();
         int oldSymbolChange = this.weight - this.encodedMessage.length();
         int weight = updatedMessage.length() + oldSymbolChange + symbol.weight();
+        int checksum = (this.checksum + this.symbols.size() * symbol.checksumValue()) % 103;
 
         LOGGER.debug("adding {}, message={}, new weight={}", symbol.name(), updatedMessage, weight);
 
-        return new EncodedString(symbols, updatedMessage, weight);
+        return new EncodedString(symbols, updatedMessage, weight, checksum);
+    }
+
+    List<Symbol> symbols() {
+        return symbols;
+    }
+
+    int checksum() {
+        return checksum;
     }
 
     Symbol lastSymbol() {
@@ -93,19 +105,20 @@ public class EncodedString {
         return stringBuffer.toString();
     }
 
+    /**
+     * The checksum is accumulated symbol by symbol in {@link #withSymbol(Symbol)}, so an encoding
+     * that is extended (e.g. a compiled prefix) never has to revisit the symbols already added.
+     */
     private int calculateChecksum() {
-        int sum = StreamSupport.withIndex(symbols.stream())
-                .mapToInt(element -> Math.max(1, element.index) * element.item.checksumValue()).sum();
-
         if (LOGGER.isDebugEnabled()) {
             String message = StreamSupport.withIndex(symbols.stream())
                     .map(s -> String.format("%d:%s:%d", s.index, s.item.name(), s.item.checksumValue()))
                     .collect(Collectors.joining(" "));
 
-            LOGGER.debug("checksum of: {}: {} {}", message, sum, sum % 103);
+            LOGGER.debug("checksum of: {}: {}", message, checksum);
         }
 
-        return sum % 103;
+        return checksum;
     }
 
     private static String deriveFromSymbols(List<Symbol> symbols) {
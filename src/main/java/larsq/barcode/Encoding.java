@@ -27,6 +27,25 @@ public class Encoding {
         return CHARACTERS[checksumValue];
     }
 
+    /**
+     * Encodes the checksum values of a complete symbol sequence, starting with the start symbol, and appends
+     * the checksum and stop character.
+     */
+    static String of(int[] values, int count) {
+        char[] characters = new char[count + 2];
+        int checksum = values[0] % 103;
+
+        for (int index = 0; index < count; index++) {
+            characters[index] = CHARACTERS[values[index]];
+            checksum = (checksum + index * values[index]) % 103;
+        }
+
+        characters[count] = of(checksum);
+        characters[count + 1] = STOP_CHAR;
+
+        return new String(characters);
+    }
+
     public static String name(char ch) {
         if (ch < CONTROL_SYMBOLIC_NAMES.length) {
             return CONTROL_SYMBOLIC_NAMES[ch];
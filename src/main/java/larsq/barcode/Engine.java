@@ -0,0 +1,17 @@
+package larsq.barcode;
+
+/**
+ * A strategy for encoding a value into the characters of the LibreBarcode128 font, including checksum and stop
+ * character. Engines are registered in an {@link EngineRegistry} and selected per {@link InputClass} by
+ * {@link Code128}.
+ */
+public interface Engine {
+    String name();
+
+    boolean supports(InputClass inputClass);
+
+    /**
+     * @return the encoded value, or {@code null} if the value cannot be encoded
+     */
+    String encode(String value);
+}
@@ -0,0 +1,42 @@
+package larsq.barcode;
+
+import java.util.*;
+
+/**
+ * The engines available to {@link Code128}, by name.
+ */
+public class EngineRegistry {
+    private final Map<String, Engine> engines = new LinkedHashMap<>();
+
+    /**
+     * @return a registry with the built-in engines: {@code search}, {@code numeric} and {@code codeset-b}
+     */
+    public static EngineRegistry defaults() {
+        return new EngineRegistry()
+                .register(new SearchEngine())
+                .register(new NumericEngine())
+                .register(new CodesetBEngine());
+    }
+
+    public EngineRegistry register(Engine engine) {
+        engines.put(engine.name(), engine);
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no engine is registered with the name
+     */
+    public Engine engine(String name) {
+        Engine engine = engines.get(name);
+
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown engine: " + name + ", registered: " + engines.keySet());
+        }
+
+        return engine;
+    }
+
+    public Collection<Engine> engines() {
+        return Collections.unmodifiableCollection(engines.values());
+    }
+}
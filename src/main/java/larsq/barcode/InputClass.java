@@ -0,0 +1,47 @@
+package larsq.barcode;
+
+/**
+ * Character class of an input, used to pick an {@link Engine}.
+ */
+public enum InputClass {
+    /**
+     * Digits only.
+     */
+    NUMERIC,
+    /**
+     * Printable ASCII without runs of four or more digits, i.e. input that is optimally encoded in Codeset B alone.
+     */
+    TEXT,
+    /**
+     * Anything else.
+     */
+    MIXED;
+
+    private static final int SHORTEST_DIGIT_RUN_WORTH_CODESET_C = 4;
+
+    public static InputClass of(String value) {
+        if (value.isEmpty()) {
+            return MIXED;
+        }
+
+        int digits = 0;
+        int longestDigitRun = 0;
+
+        for (int index = 0; index < value.length(); index++) {
+            char ch = value.charAt(index);
+
+            if (ch < ' ' || ch > '~') {
+                return MIXED;
+            }
+
+            digits = ch >= '0' && ch <= '9' ? digits + 1 : 0;
+            longestDigitRun = Math.max(longestDigitRun, digits);
+        }
+
+        if (longestDigitRun == value.length()) {
+            return NUMERIC;
+        }
+
+        return longestDigitRun < SHORTEST_DIGIT_RUN_WORTH_CODESET_C ? TEXT : MIXED;
+    }
+}
@@ -0,0 +1,47 @@
+package larsq.barcode;
+
+/**
+ * Closed form encoding of digit-only input: Codeset C pairs throughout. An odd number of digits starts in
+ * Codeset B with a single digit before switching to Codeset C, except for three digits which are as short
+ * in Codeset B alone.
+ */
+class NumericEngine implements Engine {
+    static final String NAME = "numeric";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(InputClass inputClass) {
+        return inputClass == InputClass.NUMERIC;
+    }
+
+    @Override
+    public String encode(String value) {
+        int[] values = new int[value.length() / 2 + 3];
+        int count = 0;
+        int offset = 0;
+
+        if (value.length() % 2 == 0) {
+            values[count++] = SymbolFactory.START_SYMBOL_C.checksumValue();
+        } else {
+            values[count++] = SymbolFactory.START_SYMBOL_B.checksumValue();
+            values[count++] = value.charAt(offset++) - ' ';
+
+            if (value.length() == 3) {
+                values[count++] = value.charAt(offset++) - ' ';
+                values[count++] = value.charAt(offset++) - ' ';
+            } else if (offset < value.length()) {
+                values[count++] = SymbolFactory.CODE_C.checksumValue();
+            }
+        }
+
+        for (; offset < value.length(); offset += 2) {
+            values[count++] = (value.charAt(offset) - '0') * 10 + (value.charAt(offset + 1) - '0');
+        }
+
+        return Encoding.of(values, count);
+    }
+}
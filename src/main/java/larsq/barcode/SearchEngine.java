@@ -0,0 +1,192 @@
+package larsq.barcode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Finds an encoding with the fewest symbols by a best-first search over the codesets. Handles any input
+ * that can be encoded at all, and is the engine every other engine falls back to.
+ */
+class SearchEngine implements Engine {
+    static final String NAME = "search";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SearchEngine.class);
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(InputClass inputClass) {
+        return true;
+    }
+
+    @Override
+    public String encode(String value) {
+        EncodedString encodedString = encoded(value);
+
+        if (encodedString == null) {
+            return null;
+        }
+
+        return encodedString.characters();
+    }
+
+    EncodedString encoded(String message) {
+        return encoded(message, initialPaths(), __ -> true);
+    }
+
+    /**
+     * @return the cheapest encoding of the message that ends in the codeset, not halfway a shift
+     */
+    EncodedString encoded(String message, Codeset codeset) {
+        return encoded(message, initialPaths(),
+                encoded -> encoded.currentCodeSet() == codeset && !encoded.lastSymbol().isShiftSymbol());
+    }
+
+    /**
+     * The states an encoding of a message starting with the prefix can pass through at the end of the prefix:
+     * the cheapest encoding of the prefix ending in each codeset and, if the prefix ends in a digit, the cheapest
+     * encoding of all but that digit ending in Codeset C, so that the digit can form a pair with the next one.
+     */
+    List<EncodedString> prefixStates(String prefix) {
+        List<EncodedString> states = new ArrayList<>();
+
+        for (Codeset codeset : Arrays.asList(Codeset.B, Codeset.A, Codeset.C)) {
+            Optional.ofNullable(encoded(prefix, codeset)).ifPresent(states::add);
+        }
+
+        char last = prefix.charAt(prefix.length() - 1);
+        if (!states.isEmpty() && last >= '0' && last <= '9') {
+            String head = prefix.substring(0, prefix.length() - 1);
+            Optional.ofNullable(head.isEmpty() ? EncodedString.create(SymbolFactory.START_SYMBOL_C) : encoded(head, Codeset.C))
+                    .ifPresent(states::add);
+        }
+
+        return states;
+    }
+
+    /**
+     * @param prefixStates the states of a prefix of the message, as returned by {@link #prefixStates(String)}
+     */
+    EncodedString encoded(String message, List<EncodedString> prefixStates) {
+        Optional<EncodedString> complete = prefixStates.stream()
+                .filter(state -> state.encodedMessage().equals(message))
+                .min(Comparator.comparingInt(EncodedString::weight));
+
+        if (complete.isPresent()) {
+            return complete.get();
+        }
+
+        SortedMap<Integer, List<EncodedString>> pathsToExplore = new TreeMap<>();
+        addInitialPaths(pathsToExplore, prefixStates);
+        return encoded(message, pathsToExplore, __ -> true);
+    }
+
+    private EncodedString encoded(String message, SortedMap<Integer, List<EncodedString>> pathsToExplore, Predicate<EncodedString> goal) {
+        Map<String, SymbolSet> explored = new LinkedHashMap<>();
+
+        while (!pathsToExplore.isEmpty()) {
+            List<EncodedString> cheapestPaths = pathsToExplore.remove(pathsToExplore.firstKey());
+
+            for (EncodedString current : cheapestPaths) {
+                ExploreResult result = explore(explored, message, goal, current);
+
+                if (result.encodingComplete()) {
+                    LOGGER.debug("encoding found: " + result.complete);
+                    return result.complete;
+                }
+                addInitialPaths(pathsToExplore, result.partialEncodings);
+            }
+
+        }
+        return null;
+    }
+
+
+    private ExploreResult explore(Map<String, SymbolSet> explored, String message, Predicate<EncodedString> goal, EncodedString encoded) {
+        SymbolSet alreadyExploredEncodings = explored.computeIfAbsent(generateKey(encoded), __ -> new SymbolSet());
+        SymbolSet nextSymbols = extractNextSymbols(message, encoded, alreadyExploredEncodings);
+
+        List<EncodedString> partialResults = new LinkedList<>();
+        for (Symbol nextSymbol : nextSymbols) {
+            EncodedString updated = encoded.withSymbol(nextSymbol);
+
+            if (updated.encodedMessage().equals(message) && goal.test(updated)) {
+                return ExploreResult.complete(updated);
+            }
+
+            partialResults.add(updated);
+        }
+
+        alreadyExploredEncodings.addAll(nextSymbols);
+        return ExploreResult.intermediaryResult(partialResults);
+    }
+
+    private static String generateKey(EncodedString encoded) {
+        return encoded.currentCodeSet().name() + "::" + encoded.encodedMessage();
+    }
+
+    private static SymbolSet extractNextSymbols(String message, EncodedString encoded, SymbolSet alreadyExplored) {
+        SymbolSet nextSymbols = new SymbolSet();
+
+        if (message.length() - encoded.length() >= encoded.currentCodeSet().length) {
+            int start = encoded.encodedMessage().length();
+            int stop = start + encoded.currentCodeSet().length;
+
+            Symbol nextSymbol = Symbol.fromCodeset(message.substring(start, stop), encoded.currentCodeSet());
+
+            Optional.ofNullable(nextSymbol).ifPresent(nextSymbols::add);
+        }
+
+        if (!encoded.lastSymbol().isSwitchSymbol()) {
+            SymbolFactory.addSwitchSymbolsOf(encoded.currentCodeSet(), nextSymbols);
+        }
+
+        nextSymbols.removeAll(alreadyExplored);
+
+        return nextSymbols;
+    }
+
+    private static class ExploreResult {
+        final EncodedString complete;
+        final List<EncodedString> partialEncodings;
+
+        private ExploreResult(EncodedString complete, List<EncodedString> partialEncodings) {
+            this.complete = complete;
+            this.partialEncodings = partialEncodings;
+        }
+
+        boolean encodingComplete() {
+            return complete != null;
+        }
+
+        static ExploreResult complete(EncodedString encodedString) {
+            return new ExploreResult(encodedString, null);
+        }
+
+        static ExploreResult intermediaryResult(List<EncodedString> partialEncodings) {
+            return new ExploreResult(null, partialEncodings);
+        }
+    }
+
+    private static SortedMap<Integer, List<EncodedString>> initialPaths() {
+        SortedMap<Integer, List<EncodedString>> pathsToExplore = new TreeMap<>();
+        addInitialPaths(pathsToExplore, Arrays.asList(
+                EncodedString.create(SymbolFactory.START_SYMBOL_B),
+                EncodedString.create(SymbolFactory.START_SYMBOL_A),
+                EncodedString.create(SymbolFactory.START_SYMBOL_C)));
+        return pathsToExplore;
+    }
+
+    private static void addInitialPaths(SortedMap<Integer, List<EncodedString>> weights, List<EncodedString> encodedStrings) {
+        for (EncodedString encodedString : encodedStrings) {
+            List<EncodedString> sameWeight = weights.computeIfAbsent(encodedString.weight(), __ -> new ArrayList<>());
+            sameWeight.add(encodedString);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package larsq.barcode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures, on the running JVM, from which input length each configured engine outperforms the search engine.
+ * Both engines are warmed up past the JIT compile thresholds, and compared on the median of several timed rounds.
+ * Warm-up and rounds are bounded in time, so calibration takes a few seconds at most.
+ */
+class SelfBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SelfBenchmark.class);
+
+    private static final int[] LENGTHS = {1, 2, 4, 8, 16};
+
+    private final int warmUpIterations;
+    private final long warmUpNanos;
+    private final int rounds;
+    private final long roundNanos;
+    private long blackhole;
+
+    SelfBenchmark() {
+        this(10_000, TimeUnit.SECONDS.toNanos(1), 5, TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    SelfBenchmark(int warmUpIterations, long warmUpNanos, int rounds, long roundNanos) {
+        this.warmUpIterations = warmUpIterations;
+        this.warmUpNanos = warmUpNanos;
+        this.rounds = rounds;
+        this.roundNanos = roundNanos;
+    }
+
+    Code128Configuration calibrate(Code128Configuration configuration) {
+        Engine search = configuration.fallback();
+        Map<InputClass, Integer> thresholds = new EnumMap<>(InputClass.class);
+
+        configuration.engines().forEach((inputClass, engine) -> thresholds.put(inputClass, engine == search
+                ? 0 : threshold(inputClass, engine, search, configuration.threshold(inputClass))));
+
+        return configuration.withThresholds(thresholds);
+    }
+
+    /**
+     * @return the shortest sample length from which the engine encodes, and is faster than the search engine,
+     * for all longer samples, or {@code configured} if there is no sample of the input class
+     */
+    private int threshold(InputClass inputClass, Engine engine, Engine search, int configured) {
+        List<String> samples = samplesOf(inputClass);
+
+        if (samples.isEmpty()) {
+            return configured;
+        }
+
+        warmUp(engine, samples);
+        warmUp(search, samples);
+
+        int threshold = Integer.MAX_VALUE;
+
+        for (String sample : samples) {
+            if (engine.encode(sample) == null) {
+                LOGGER.debug("{} length {}: {} cannot encode sample", inputClass, sample.length(), engine.name());
+                break;
+            }
+
+            long engineTime = measure(engine, sample);
+            long searchTime = measure(search, sample);
+            LOGGER.debug("{} length {}: {}={}ns, {}={}ns", inputClass, sample.length(), engine.name(), engineTime, search.name(), searchTime);
+
+            if (engineTime >= searchTime) {
+                break;
+            }
+
+            threshold = sample.length();
+        }
+
+        return threshold;
+    }
+
+    private void warmUp(Engine engine, List<String> samples) {
+        long start = System.nanoTime();
+
+        for (int iteration = 0; iteration < warmUpIterations && System.nanoTime() - start < warmUpNanos; iteration++) {
+            consume(engine.encode(samples.get(iteration % samples.size())));
+        }
+    }
+
+    /**
+     * @return the median time of an encoding over the rounds, in nanoseconds
+     */
+    private long measure(Engine engine, String sample) {
+        long[] times = new long[rounds];
+
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            long elapsed;
+            int iterations = 0;
+
+            do {
+                consume(engine.encode(sample));
+                iterations++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < roundNanos);
+
+            times[round] = elapsed / iterations;
+        }
+
+        Arrays.sort(times);
+        return times[rounds / 2];
+    }
+
+    private void consume(String encoded) {
+        blackhole += encoded == null ? 0 : encoded.length();
+    }
+
+    /**
+     * @return samples of the input class, longest first
+     */
+    private static List<String> samplesOf(InputClass inputClass) {
+        List<String> samples = new ArrayList<>();
+
+        for (int index = LENGTHS.length - 1; index >= 0; index--) {
+            Optional.ofNullable(sampleOf(inputClass, LENGTHS[index])).ifPresent(samples::add);
+        }
+
+        return samples;
+    }
+
+    private static String sampleOf(InputClass inputClass, int length) {
+        String pattern = inputClass == InputClass.NUMERIC ? "0123456789" : "WH01-BIN-Label ";
+        StringBuilder sample = new StringBuilder(length);
+
+        while (sample.length() < length) {
+            sample.append(pattern.charAt(sample.length() % pattern.length()));
+        }
+
+        return InputClass.of(sample.toString()) == inputClass ? sample.toString() : null;
+    }
+}
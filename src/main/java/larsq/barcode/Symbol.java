@@ -5,14 +5,20 @@ import java.util.Optional;
 import static larsq.barcode.SymbolClass.*;
 import static larsq.barcode.SymbolClass.NORMAL;
 
+/**
+ * A Code-128 symbol. Symbols are flyweights created once by {@link SymbolFactory}, each identified by a unique
+ * ordinal that is its position in a {@link SymbolSet}.
+ */
 public class Symbol {
+    private final int ordinal;
     private final String token;
     private final SymbolClass category;
     private final int checksumValue;
     private final Codeset nextCodeset;
     private final String encoding;
 
-    public Symbol(String token, SymbolClass category, int checksumValue, Codeset nextCodeset) {
+    Symbol(int ordinal, String token, SymbolClass category, int checksumValue, Codeset nextCodeset) {
+        this.ordinal = ordinal;
         this.token = token;
         this.category = category;
         this.checksumValue = checksumValue;
@@ -20,6 +26,10 @@ public class Symbol {
         this.encoding = category == NORMAL ? token : "";
     }
 
+    int ordinal() {
+        return ordinal;
+    }
+
     public SymbolClass category() {
         return category;
     }
@@ -58,6 +68,17 @@ public class Symbol {
         return Optional.ofNullable(nextCodeset).map(Enum::name).orElse("") + ":" + category.name();
     }
 
+    // Identity equality is intentional: symbols are flyweights, one instance per ordinal
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return ordinal;
+    }
+
     @Override
     public String toString() {
         return "Symbol{" + name() + "}";
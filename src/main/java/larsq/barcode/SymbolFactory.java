@@ -6,27 +6,43 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static com.google.common.collect.ImmutableList.of;
 import static larsq.barcode.Codeset.*;
 import static larsq.barcode.Codeset.C;
 import static larsq.barcode.SymbolClass.CODE;
 import static larsq.barcode.SymbolClass.SHIFT;
 
 public class SymbolFactory {
-    private static final List<Symbol> csA = construct(basicSymbols(), codeAControlSymbols());
-    private static final List<Symbol> csB = construct(basicSymbols(), codeBExtendedSymbols());
-    private static final List<Symbol> csC = codeCSymbols();
+    private static final int CS_A_OFFSET = 0;
+    private static final int CS_B_OFFSET = 96;
+    private static final int CS_C_OFFSET = 192;
+    private static final int CONTROL_OFFSET = 292;
 
-    static final Symbol START_SYMBOL_A = new Symbol("SC", SymbolClass.START, 103, A);
-    static final Symbol START_SYMBOL_B = new Symbol("SC", SymbolClass.START, 104, B);
-    static final Symbol START_SYMBOL_C = new Symbol("SC", SymbolClass.START, 105, C);
+    private static final List<Symbol> csA = construct(basicSymbols(CS_A_OFFSET), codeAControlSymbols(CS_A_OFFSET + 64));
+    private static final List<Symbol> csB = construct(basicSymbols(CS_B_OFFSET), codeBExtendedSymbols(CS_B_OFFSET + 64));
+    private static final List<Symbol> csC = codeCSymbols(CS_C_OFFSET);
 
-    static final Symbol SHIFT_A = new Symbol("SH_A", SHIFT, 98, A);
-    static final Symbol SHIFT_B = new Symbol("SH_B", SHIFT, 98, B);
-    static final Symbol CODE_A = new Symbol("C_A", CODE, 101, A);
-    static final Symbol CODE_B = new Symbol("C_B", CODE, 100, B);
-    static final Symbol CODE_C = new Symbol("C_C", CODE, 99, C);
+    // Switch symbols have the highest ordinals, so they share one word of a SymbolSet and are iterated after
+    // the character symbols, in the order the search expects them
+    static final Symbol START_SYMBOL_A = new Symbol(CONTROL_OFFSET, "SC", SymbolClass.START, 103, A);
+    static final Symbol START_SYMBOL_B = new Symbol(CONTROL_OFFSET + 1, "SC", SymbolClass.START, 104, B);
+    static final Symbol START_SYMBOL_C = new Symbol(CONTROL_OFFSET + 2, "SC", SymbolClass.START, 105, C);
+
+    static final Symbol CODE_A = new Symbol(CONTROL_OFFSET + 3, "C_A", CODE, 101, A);
+    static final Symbol CODE_B = new Symbol(CONTROL_OFFSET + 4, "C_B", CODE, 100, B);
+    static final Symbol CODE_C = new Symbol(CONTROL_OFFSET + 5, "C_C", CODE, 99, C);
+    static final Symbol SHIFT_A = new Symbol(CONTROL_OFFSET + 6, "SH_A", SHIFT, 98, A);
+    static final Symbol SHIFT_B = new Symbol(CONTROL_OFFSET + 7, "SH_B", SHIFT, 98, B);
+
+    static final int SYMBOL_COUNT = CONTROL_OFFSET + 8;
+
+    private static final Symbol[] symbols = bySymbolOrdinal();
+
+    // Never handed out, only added to other sets by addSwitchSymbolsOf
+    private static final SymbolSet switchSymbolsOfA = SymbolSet.of(CODE_B, CODE_C, SHIFT_B);
+    private static final SymbolSet switchSymbolsOfB = SymbolSet.of(CODE_A, CODE_C, SHIFT_A);
+    private static final SymbolSet switchSymbolsOfC = SymbolSet.of(CODE_A, CODE_B);
 
     // Is not yet supported
     // private static final Symbol FNC_1 = new Symbol("", Symbols.SymbolCategory.FNC_1, 102, null);
@@ -47,14 +63,25 @@ public class SymbolFactory {
     }
 
 
-    static List<Symbol> switchSymbolsOf(Codeset codeset) {
+    static Symbol symbol(int ordinal) {
+        return symbols[ordinal];
+    }
+
+    /**
+     * Adds the symbols that switch away from the codeset to the target set.
+     */
+    static void addSwitchSymbolsOf(Codeset codeset, SymbolSet target) {
+        target.addAll(switchSymbolsOf(codeset));
+    }
+
+    private static SymbolSet switchSymbolsOf(Codeset codeset) {
         switch (codeset) {
             case A:
-                return of(CODE_B, CODE_C, SHIFT_B);
+                return switchSymbolsOfA;
             case B:
-                return of(CODE_A, CODE_C, SHIFT_A);
+                return switchSymbolsOfB;
             case C:
-                return of(CODE_A, CODE_B);
+                return switchSymbolsOfC;
         }
 
         throw new UnsupportedOperationException("Unsupported codeset: " + codeset);
@@ -73,29 +100,39 @@ public class SymbolFactory {
         throw new UnsupportedOperationException("Unsupported codeset: " + codeset);
     }
 
-    private static List<Symbol> basicSymbols() {
+    private static Symbol[] bySymbolOrdinal() {
+        Symbol[] symbols = new Symbol[SYMBOL_COUNT];
+
+        Stream.of(csA, csB, csC, Arrays.asList(START_SYMBOL_A, START_SYMBOL_B, START_SYMBOL_C, CODE_A, CODE_B, CODE_C, SHIFT_A, SHIFT_B))
+                .flatMap(Collection::stream)
+                .forEach(symbol -> symbols[symbol.ordinal()] = symbol);
+
+        return symbols;
+    }
+
+    private static List<Symbol> basicSymbols(int offset) {
         Symbol[] symbols = new Symbol[64];
-        Arrays.setAll(symbols, index -> new Symbol(String.valueOf(Character.toChars(index + 32)), SymbolClass.NORMAL, index, null));
+        Arrays.setAll(symbols, index -> new Symbol(offset + index, String.valueOf(Character.toChars(index + 32)), SymbolClass.NORMAL, index, null));
         return ImmutableList.copyOf(symbols);
     }
 
-    private static List<Symbol> codeAControlSymbols() {
+    private static List<Symbol> codeAControlSymbols(int offset) {
         Symbol[] symbols = new Symbol[32];
-        Arrays.setAll(symbols, index -> new Symbol(String.valueOf(Character.toChars(index)), SymbolClass.CONTROL, index + 64, null));
+        Arrays.setAll(symbols, index -> new Symbol(offset + index, String.valueOf(Character.toChars(index)), SymbolClass.CONTROL, index + 64, null));
         return ImmutableList.copyOf(symbols);
     }
 
-    private static List<Symbol> codeBExtendedSymbols() {
+    private static List<Symbol> codeBExtendedSymbols(int offset) {
         Symbol[] symbols = new Symbol[32];
-        Arrays.setAll(symbols, index -> new Symbol(String.valueOf(Character.toChars(index + 96)), index == 31 ? SymbolClass.CONTROL : SymbolClass.NORMAL, index + 64, null));
+        Arrays.setAll(symbols, index -> new Symbol(offset + index, String.valueOf(Character.toChars(index + 96)), index == 31 ? SymbolClass.CONTROL : SymbolClass.NORMAL, index + 64, null));
 
         return ImmutableList.copyOf(symbols);
 
     }
 
-    private static List<Symbol> codeCSymbols() {
+    private static List<Symbol> codeCSymbols(int offset) {
         Symbol[] symbols = new Symbol[100];
-        Arrays.setAll(symbols, index -> new Symbol(String.format("%02d", index), SymbolClass.NORMAL, index, null));
+        Arrays.setAll(symbols, index -> new Symbol(offset + index, String.format("%02d", index), SymbolClass.NORMAL, index, null));
         return ImmutableList.copyOf(symbols);
     }
 
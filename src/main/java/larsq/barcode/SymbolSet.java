@@ -0,0 +1,74 @@
+package larsq.barcode;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A mutable set of {@link Symbol}s stored as a bitmask over the symbol ordinals, in the manner of
+ * {@link java.util.EnumSet}. Adding and removing sets are word-wise bit operations. Iteration is in
+ * ordinal order.
+ * <p>
+ * There are more symbols than bits in a {@code long}, so a set spans {@value #WORDS} words, like a
+ * {@code JumboEnumSet}, and set operations loop over all of them. The switch symbols have the highest
+ * ordinals and share the last word.
+ */
+class SymbolSet implements Iterable<Symbol> {
+    private static final int WORDS = (SymbolFactory.SYMBOL_COUNT + 63) >>> 6;
+
+    private final long[] words = new long[WORDS];
+
+    static SymbolSet of(Symbol... symbols) {
+        SymbolSet set = new SymbolSet();
+
+        for (Symbol symbol : symbols) {
+            set.add(symbol);
+        }
+
+        return set;
+    }
+
+    void add(Symbol symbol) {
+        words[symbol.ordinal() >>> 6] |= 1L << symbol.ordinal();
+    }
+
+    void addAll(SymbolSet other) {
+        for (int index = 0; index < WORDS; index++) {
+            words[index] |= other.words[index];
+        }
+    }
+
+    void removeAll(SymbolSet other) {
+        for (int index = 0; index < WORDS; index++) {
+            words[index] &= ~other.words[index];
+        }
+    }
+
+    @Override
+    public Iterator<Symbol> iterator() {
+        return new Iterator<Symbol>() {
+            private int index = 0;
+            private long remaining = words[0];
+
+            @Override
+            public boolean hasNext() {
+                while (remaining == 0 && index < WORDS - 1) {
+                    remaining = words[++index];
+                }
+
+                return remaining != 0;
+            }
+
+            @Override
+            public Symbol next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                int ordinal = (index << 6) + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+
+                return SymbolFactory.symbol(ordinal);
+            }
+        };
+    }
+}
@@ -2,16 +2,25 @@ package larsq.barcode;
 
 import larsq.barcode.Code128;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 class Code128Test {
+    private static final SelfBenchmark QUICK_BENCHMARK = new SelfBenchmark(10, TimeUnit.MILLISECONDS.toNanos(1), 1, 1);
+
     private Code128 target;
 
     @BeforeEach
@@ -34,4 +43,152 @@ class Code128Test {
                 arguments(" Hello World", "Ì Hello World6Î"));
     }
 
+    @ParameterizedTest(name = "[{index}] {0}{1}")
+    @MethodSource("templateEncoding")
+    void testTemplateEncoding(String prefix, String suffix, String expected) {
+        assertEquals(expected, target.compile(prefix).encode(suffix));
+    }
+
+    static Stream<Arguments> templateEncoding() {
+        return Stream.of(
+                arguments("WH01-BIN-", "000123", "ÌWH01-BIN-Ç !73Î"),
+                arguments("WH01-BIN-", "12345", "ÌWH01-BIN-1Ç7M.Î"),
+                arguments("WH01-BIN-", "", "ÌWH01-BIN-YÎ"),
+                arguments("A1", "234", "ÌAÇ,BÃÎ"),
+                arguments("2020", "1", "Í44È12Î"));
+    }
+
+    @Test
+    void testTemplateEncodingIsAsShortAsEncode() {
+        String templated = target.compile("2020").encode("-01-01");
+
+        assertAll(
+                () -> assertEquals("Í44È-01-01IÎ", templated, "switches to Codeset B where encode switches to A"),
+                () -> assertEquals(target.encode("2020-01-01").length(), templated.length()));
+    }
+
+    @Test
+    void testCompileRejectsEmptyPrefix() {
+        assertThrows(IllegalArgumentException.class, () -> target.compile(""));
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}..{1}")
+    @MethodSource("rangeEncoding")
+    void testRangeEncoding(String first, String last) {
+        List<String> expected = LongStream.rangeClosed(Long.parseLong(first), Long.parseLong(last))
+                .mapToObj(value -> String.format("%0" + first.length() + "d", value))
+                .map(target::encode)
+                .collect(Collectors.toList());
+
+        List<String> actual = new ArrayList<>();
+        target.range(first, last).forEach(actual::add);
+
+        assertEquals(expected, actual);
+    }
+
+    static Stream<Arguments> rangeEncoding() {
+        return Stream.of(
+                arguments("7", "9"),
+                arguments("0995", "1010"),
+                arguments("00095", "00105"));
+    }
+
+    @Test
+    void testRangeCanBeIteratedRepeatedly() {
+        List<String> expected = Arrays.asList(target.encode("7"), target.encode("8"), target.encode("9"));
+        Code128Range range = target.range("7", "9");
+
+        List<String> firstPass = new ArrayList<>();
+        range.forEach(firstPass::add);
+        List<String> secondPass = new ArrayList<>();
+        range.forEach(secondPass::add);
+
+        assertAll(
+                () -> assertEquals(expected, firstPass),
+                () -> assertEquals(expected, secondPass));
+    }
+
+    @Test
+    void testTemplateRangeEncoding() {
+        List<String> actual = new ArrayList<>();
+        target.compile("WH01-BIN-").range("0099", "0101").forEach(actual::add);
+
+        assertEquals(Arrays.asList("ÌWH01-BIN-Ç ÇhÎ", "ÌWH01-BIN-Ç! <Î", "ÌWH01-BIN-Ç!!HÎ"), actual);
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource("engineEncoding")
+    void testEnginesAgreeWithSearch(String source, InputClass inputClass) {
+        Code128 searchOnly = Code128.builder()
+                .engine(InputClass.NUMERIC, SearchEngine.NAME, 0)
+                .engine(InputClass.TEXT, SearchEngine.NAME, 0)
+                .build();
+
+        assertAll(
+                () -> assertEquals(inputClass, InputClass.of(source)),
+                () -> assertEquals(searchOnly.encode(source), target.encode(source)));
+    }
+
+    static Stream<Arguments> engineEncoding() {
+        return Stream.of(
+                arguments("7", InputClass.NUMERIC),
+                arguments("123", InputClass.NUMERIC),
+                arguments("12345", InputClass.NUMERIC),
+                arguments("05552020202034", InputClass.NUMERIC),
+                arguments("WH01-BIN-12", InputClass.TEXT),
+                arguments(" Hello World", InputClass.TEXT),
+                arguments("2020-01-01", InputClass.MIXED));
+    }
+
+    @Test
+    void testSelfBenchmarkCalibratesConfiguration() {
+        Code128 calibrated = Code128.builder().selfBenchmark(QUICK_BENCHMARK).build();
+
+        assertAll(
+                () -> assertTrue(calibrated.configuration().calibrated()),
+                () -> assertEquals(NumericEngine.NAME, calibrated.configuration().engine(InputClass.NUMERIC)),
+                () -> assertEquals("Í!7McyiÎ", calibrated.encode("0123456789")));
+    }
+
+    @Test
+    void testSelfBenchmarkSkipsEngineThatCannotEncodeSample() {
+        Engine rejecting = new Engine() {
+            @Override
+            public String name() {
+                return "rejecting";
+            }
+
+            @Override
+            public boolean supports(InputClass inputClass) {
+                return inputClass == InputClass.TEXT;
+            }
+
+            @Override
+            public String encode(String value) {
+                return null;
+            }
+        };
+
+        Code128 calibrated = Code128.builder()
+                .registry(EngineRegistry.defaults().register(rejecting))
+                .engine(InputClass.TEXT, "rejecting", 0)
+                .selfBenchmark(QUICK_BENCHMARK)
+                .build();
+
+        assertAll(
+                () -> assertEquals(Integer.MAX_VALUE, calibrated.configuration().threshold(InputClass.TEXT)),
+                () -> assertEquals("Ì Hello World6Î", calibrated.encode(" Hello World")));
+    }
+
+    @Test
+    void testBuilderRejectsUnsupportedEngine() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Code128.builder().engine(InputClass.MIXED, NumericEngine.NAME, 0).build());
+    }
+
+    @Test
+    void testRangeRejectsDifferentLengths() {
+        assertThrows(IllegalArgumentException.class, () -> target.range("1", "10"));
+    }
+
 }
\ No newline at end of file
@@ -4,9 +4,13 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,4 +51,36 @@ class SymbolFactoryTest {
         );
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Every symbol is found by its ordinal")
+    void every_symbol_should_be_found_by_its_ordinal() {
+        Stream<Symbol> controlSymbols = Stream.of(
+                SymbolFactory.START_SYMBOL_A, SymbolFactory.START_SYMBOL_B, SymbolFactory.START_SYMBOL_C,
+                SymbolFactory.CODE_A, SymbolFactory.CODE_B, SymbolFactory.CODE_C,
+                SymbolFactory.SHIFT_A, SymbolFactory.SHIFT_B);
+
+        Set<Integer> ordinals = Stream.concat(Arrays.stream(Codeset.values()).flatMap(codeset -> codeset.alphabet().stream()), controlSymbols)
+                .peek(symbol -> assertSame(symbol, SymbolFactory.symbol(symbol.ordinal())))
+                .map(Symbol::ordinal)
+                .collect(Collectors.toSet());
+
+        assertAll(
+                () -> assertEquals(SymbolFactory.SYMBOL_COUNT, ordinals.size(), "ordinals should be unique"),
+                () -> assertTrue(ordinals.stream().allMatch(ordinal -> ordinal >= 0 && ordinal < SymbolFactory.SYMBOL_COUNT),
+                        "ordinals should be within the symbol count"));
+    }
+
+    @Test
+    @DisplayName("Symbol sets iterate character symbols before switch symbols")
+    void symbol_set_should_iterate_in_ordinal_order() {
+        Symbol character = Codeset.C.alphabet().get(42);
+        SymbolSet set = SymbolSet.of(character);
+        SymbolFactory.addSwitchSymbolsOf(Codeset.B, set);
+        set.removeAll(SymbolSet.of(SymbolFactory.CODE_C));
+
+        List<Symbol> symbols = new ArrayList<>();
+        set.forEach(symbols::add);
+
+        assertEquals(Arrays.asList(character, SymbolFactory.CODE_A, SymbolFactory.SHIFT_A), symbols);
+    }
+}